@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.resourcefiltering;
+
+/**
+ * Estimates the worst-case matching cost of an Ant-style path pattern and rewrites patterns into an
+ * equivalent, cheaper form when possible.
+ *
+ * A segment is matched with a regular expression in which every {@code *} and URI template variable may
+ * backtrack over the remaining characters, so a segment costs {@code 2^n} units for {@code n} of them, plus one
+ * unit per {@code ?}. A URI template variable carrying its own regular expression ({@code {name:regex}}) cannot
+ * be bounded and costs {@link Long#MAX_VALUE}. Since every {@code **} segment lets the matcher retry the remaining
+ * segments at any depth of the request path, the total is multiplied by the square of the number of {@code **}
+ * segments.
+ *
+ * @author GraviteeSource Team
+ */
+final class PatternComplexity {
+
+    private static final String PATH_SEPARATOR = "/";
+    private static final String DEEP_WILDCARD = "**";
+
+    private PatternComplexity() {
+    }
+
+    /**
+     * Rewrite a pattern into an equivalent one: consecutive {@code **} segments are collapsed into a single one
+     * and runs of {@code *} inside a segment are collapsed into a single {@code *}.
+     *
+     * @param pattern the pattern to rewrite
+     * @return the rewritten pattern
+     */
+    static String normalize(String pattern) {
+        if (pattern == null) {
+            return null;
+        }
+
+        StringBuilder normalized = new StringBuilder(pattern.length());
+        String previous = null;
+
+        for (String segment : pattern.split(PATH_SEPARATOR, -1)) {
+            if (!DEEP_WILDCARD.equals(segment)) {
+                segment = segment.replaceAll("\\*{2,}", "*");
+            } else if (DEEP_WILDCARD.equals(previous)) {
+                continue;
+            }
+
+            if (previous != null) {
+                normalized.append(PATH_SEPARATOR);
+            }
+            normalized.append(segment);
+            previous = segment;
+        }
+
+        return normalized.toString();
+    }
+
+    /**
+     * Compute the worst-case matching cost of a pattern.
+     *
+     * @param pattern the pattern to analyze
+     * @return the cost of the pattern, {@code 0} for a {@code null} pattern
+     */
+    static long cost(String pattern) {
+        if (pattern == null) {
+            return 0;
+        }
+
+        long segmentsCost = 0;
+        long deepWildcards = 0;
+
+        for (String segment : pattern.split(PATH_SEPARATOR)) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+
+            if (DEEP_WILDCARD.equals(segment)) {
+                deepWildcards++;
+                segmentsCost = add(segmentsCost, 1);
+            } else {
+                segmentsCost = add(segmentsCost, segmentCost(segment));
+            }
+        }
+
+        return multiply(segmentsCost, Math.max(1, deepWildcards * deepWildcards));
+    }
+
+    private static long segmentCost(String segment) {
+        int wildcards = 0;
+        long singleWildcards = 0;
+
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '*') {
+                wildcards++;
+            } else if (c == '?') {
+                singleWildcards++;
+            } else if (c == '{') {
+                int depth = 1;
+                int start = i;
+                while (depth > 0 && ++i < segment.length()) {
+                    c = segment.charAt(i);
+                    if (c == '{') {
+                        depth++;
+                    } else if (c == '}') {
+                        depth--;
+                    }
+                }
+
+                if (segment.substring(start, Math.min(i, segment.length())).indexOf(':') != -1) {
+                    return Long.MAX_VALUE;
+                }
+                wildcards++;
+            }
+        }
+
+        if (wildcards >= Long.SIZE - 1) {
+            return Long.MAX_VALUE;
+        }
+
+        return add(1L << wildcards, singleWildcards);
+    }
+
+    private static long add(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException ae) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static long multiply(long a, long b) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (ArithmeticException ae) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package io.gravitee.policy.resourcefiltering;
 
+import io.gravitee.common.http.HttpHeaders;
 import io.gravitee.common.http.HttpMethod;
 import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.common.util.Maps;
@@ -25,10 +26,14 @@ import io.gravitee.policy.api.PolicyResult;
 import io.gravitee.policy.api.annotations.OnRequest;
 import io.gravitee.policy.resourcefiltering.configuration.Resource;
 import io.gravitee.policy.resourcefiltering.configuration.ResourceFilteringPolicyConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.util.AntPathMatcher;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.PathMatcher;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -37,12 +42,24 @@ import java.util.List;
  */
 public class ResourceFilteringPolicy {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceFilteringPolicy.class);
+
+    /**
+     * Rules are validated and partitioned once per configuration content, not once per request: configurations
+     * are compared by value, so a configuration deserialized again for each invocation still hits the cache.
+     * Reads do not lock, and soft references let the rules of undeployed configurations be reclaimed.
+     */
+    private static final ConcurrentMap<ResourceFilteringPolicyConfiguration, ResourceFilteringRules> RULES =
+            new ConcurrentReferenceHashMap<>();
+
     /**
      * The associated configuration to this Resource Filtering Policy
      */
     private ResourceFilteringPolicyConfiguration configuration;
 
     private static final String RESOURCE_FILTERING_FORBIDDEN = "RESOURCE_FILTERING_FORBIDDEN";
+    private static final String RESOURCE_FILTERING_INVALID_CONFIGURATION = "RESOURCE_FILTERING_INVALID_CONFIGURATION";
+    private static final String RESOURCE_FILTERING_PATH_TOO_COMPLEX = "RESOURCE_FILTERING_PATH_TOO_COMPLEX";
 
     /**
      * Create a new Resource Filtering Policy instance based on its associated configuration
@@ -55,16 +72,23 @@ public class ResourceFilteringPolicy {
 
     @OnRequest
     public void onRequest(Request request, Response response, PolicyChain policyChain) {
-        final AntPathMatcher pathMatcher = new AntPathMatcher();
+        final ResourceFilteringRules rules = rules();
 
-        if (!match(true, request.contextPath(), configuration.getWhitelist(), request.method(), pathMatcher, request.path())
-                || match(false, request.contextPath(), configuration.getBlacklist(), request.method(), pathMatcher, request.path())) {
+        if (!rules.isValid()) {
+            policyChain.failWith(
+                    PolicyResult.failure(
+                            RESOURCE_FILTERING_INVALID_CONFIGURATION,
+                            HttpStatusCode.INTERNAL_SERVER_ERROR_500,
+                            "Resource filtering configuration is invalid"));
+            return ;
+        }
 
+        if (isTooComplex(request.path())) {
             policyChain.failWith(
                     PolicyResult.failure(
-                            RESOURCE_FILTERING_FORBIDDEN,
-                            HttpStatusCode.FORBIDDEN_403,
-                            "You're not allowed to access this resource",
+                            RESOURCE_FILTERING_PATH_TOO_COMPLEX,
+                            HttpStatusCode.BAD_REQUEST_400,
+                            "Request path is too long or has too many segments",
                             Maps.<String, Object>builder()
                                     .put("path", request.path())
                                     .put("method", request.method())
@@ -72,24 +96,97 @@ public class ResourceFilteringPolicy {
             return ;
         }
 
+        final String host = rules.hasHostSelectors() ?
+                ResourceFilteringRules.normalizeHost(request.headers().getFirst(HttpHeaders.HOST)) : null;
+        final List<ResourceFilteringRules.Partition> partitions = rules.select(host,
+                ResourceFilteringRules.normalizeContextPath(request.contextPath()));
+        final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+        if (!match(true, request.contextPath(), partitions, request.method(), pathMatcher, request.path())
+                || match(false, request.contextPath(), partitions, request.method(), pathMatcher, request.path())) {
+            forbidden(request, policyChain);
+            return ;
+        }
+
         policyChain.doNext(request, response);
     }
 
-    private boolean match(boolean whitelist, String contextPath, List<Resource> resources, HttpMethod method,
-                             PathMatcher pathMatcher, String path) {
-        if (resources == null || resources.isEmpty()) {
-            return whitelist;
+    private ResourceFilteringRules rules() {
+        ResourceFilteringRules rules = RULES.get(configuration);
+        if (rules != null) {
+            return rules;
         }
 
-        for (Resource resource : resources) {
-            if ((resource.getMethods() == null || resource.getMethods().contains(method)) &&
-                    (resource.getPattern() == null ||
-                            pathMatcher.match(resource.getPattern(), path) ||
-                            pathMatcher.match(contextPath + resource.getPattern(), path))) {
-                return true;
+        rules = ResourceFilteringRules.compile(configuration);
+        ResourceFilteringRules previous = RULES.putIfAbsent(configuration, rules);
+        if (previous != null) {
+            return previous;
+        }
+
+        rules.getErrors().forEach(error -> LOGGER.error("Invalid resource filtering configuration: {}", error));
+        return rules;
+    }
+
+    /**
+     * Bound the cost of matching by rejecting request paths which are too long or too deep, before any pattern
+     * is evaluated. A limit lower than or equal to {@code 0} is not enforced.
+     */
+    private boolean isTooComplex(String path) {
+        if (path == null) {
+            return false;
+        }
+
+        int maxPathLength = configuration.getMaxPathLength();
+        if (maxPathLength > 0 && path.length() > maxPathLength) {
+            return true;
+        }
+
+        int maxPathSegments = configuration.getMaxPathSegments();
+        if (maxPathSegments > 0) {
+            int segments = 0;
+            for (int i = 0; i < path.length(); i++) {
+                if (path.charAt(i) == '/' && ++segments > maxPathSegments) {
+                    return true;
+                }
             }
         }
 
         return false;
     }
+
+    private void forbidden(Request request, PolicyChain policyChain) {
+        policyChain.failWith(
+                PolicyResult.failure(
+                        RESOURCE_FILTERING_FORBIDDEN,
+                        HttpStatusCode.FORBIDDEN_403,
+                        "You're not allowed to access this resource",
+                        Maps.<String, Object>builder()
+                                .put("path", request.path())
+                                .put("method", request.method())
+                                .build()));
+    }
+
+    /**
+     * A request is not restricted by the whitelist when none of the selected partitions declare whitelisted resources.
+     */
+    private boolean match(boolean whitelist, String contextPath, List<ResourceFilteringRules.Partition> partitions,
+                          HttpMethod method, PathMatcher pathMatcher, String path) {
+        boolean empty = true;
+
+        for (ResourceFilteringRules.Partition partition : partitions) {
+            List<Resource> resources = whitelist ? partition.getWhitelist() : partition.getBlacklist();
+            empty &= resources.isEmpty();
+
+            for (Resource resource : resources) {
+                if ((resource.getMethods() == null || resource.getMethods().contains(method)) &&
+                        (resource.getPattern() == null ||
+                                pathMatcher.match(resource.getPattern(), path) ||
+                                pathMatcher.match(contextPath + resource.getPattern(), path))) {
+                    return true;
+                }
+            }
+        }
+
+        return whitelist && empty;
+    }
 }
@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.resourcefiltering;
+
+import io.gravitee.policy.resourcefiltering.configuration.Resource;
+import io.gravitee.policy.resourcefiltering.configuration.ResourceFilteringPolicyConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The validated form of a {@link ResourceFilteringPolicyConfiguration}: patterns are rewritten to their cheapest
+ * equivalent form and those whose worst-case cost exceeds the configured budget are reported as validation errors.
+ *
+ * Resources are partitioned by their {@code host} and {@code contextPath} selectors, one partition per declared
+ * pair, an unset selector being keyed as "any". A request is only evaluated against the partitions of its own
+ * (host, context path), (host, any), (any, context path) and (any, any) pairs, so the number of partitions grows
+ * with the number of declared pairs and each resource belongs to a single partition.
+ *
+ * @author GraviteeSource Team
+ */
+final class ResourceFilteringRules {
+
+    /**
+     * Key of the resources which do not declare a host or a context path selector
+     */
+    private static final String ANY = null;
+
+    private final Map<String, Map<String, Partition>> partitions;
+
+    private final boolean hostSelectors;
+
+    private final List<String> errors;
+
+    private ResourceFilteringRules(Map<String, Map<String, Partition>> partitions, boolean hostSelectors,
+                                   List<String> errors) {
+        this.partitions = partitions;
+        this.hostSelectors = hostSelectors;
+        this.errors = errors;
+    }
+
+    static ResourceFilteringRules compile(ResourceFilteringPolicyConfiguration configuration) {
+        List<String> errors = new ArrayList<>();
+        long budget = configuration.getMaxPatternComplexity();
+        Map<String, Map<String, Partition>> partitions = new HashMap<>();
+
+        compile("whitelist", configuration.getWhitelist(), true, budget, errors, partitions);
+        compile("blacklist", configuration.getBlacklist(), false, budget, errors, partitions);
+
+        boolean hostSelectors = partitions.size() > (partitions.containsKey(ANY) ? 1 : 0);
+
+        return new ResourceFilteringRules(partitions, hostSelectors, Collections.unmodifiableList(errors));
+    }
+
+    private static void compile(String name, List<Resource> resources, boolean whitelist, long budget,
+                                List<String> errors, Map<String, Map<String, Partition>> partitions) {
+        if (resources == null) {
+            return;
+        }
+
+        for (int i = 0; i < resources.size(); i++) {
+            Resource resource = resources.get(i);
+            String pattern = PatternComplexity.normalize(resource.getPattern());
+            long cost = PatternComplexity.cost(pattern);
+
+            if (budget > 0 && cost > budget) {
+                errors.add(String.format("%s[%d]: pattern '%s' has a complexity of %d which exceeds the maximum of %d",
+                        name, i, resource.getPattern(), cost, budget));
+            }
+
+            Resource copy = new Resource();
+            copy.setPattern(pattern);
+            copy.setMethods(resource.getMethods());
+            copy.setHost(normalizeHost(resource.getHost()));
+            copy.setContextPath(normalizeContextPath(resource.getContextPath()));
+
+            Partition partition = partitions
+                    .computeIfAbsent(copy.getHost(), host -> new HashMap<>())
+                    .computeIfAbsent(copy.getContextPath(), contextPath -> new Partition());
+            (whitelist ? partition.whitelist : partition.blacklist).add(copy);
+        }
+    }
+
+    /**
+     * Lower-case the host and strip its port and trailing dot, if any.
+     */
+    static String normalizeHost(String host) {
+        if (host == null || host.isEmpty()) {
+            return null;
+        }
+
+        if (host.startsWith("[")) {
+            int end = host.indexOf(']');
+            if (end != -1) {
+                host = host.substring(0, end + 1);
+            }
+        } else {
+            int portSeparator = host.indexOf(':');
+            if (portSeparator != -1 && host.indexOf(':', portSeparator + 1) == -1) {
+                host = host.substring(0, portSeparator);
+            }
+        }
+
+        int end = host.length();
+        while (end > 0 && host.charAt(end - 1) == '.') {
+            end--;
+        }
+
+        return (end == 0) ? null : host.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Strip the trailing slashes of the context path, keeping {@code /} for the root one.
+     */
+    static String normalizeContextPath(String contextPath) {
+        if (contextPath == null || contextPath.isEmpty()) {
+            return null;
+        }
+
+        int end = contextPath.length();
+        while (end > 1 && contextPath.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        return contextPath.substring(0, end);
+    }
+
+    /**
+     * Select the partitions of the resources applying to the given host and context path, from the most to the
+     * least specific one.
+     *
+     * @param host the normalized host of the request
+     * @param contextPath the normalized context path of the request
+     * @return the partitions to evaluate, never {@code null}
+     */
+    List<Partition> select(String host, String contextPath) {
+        List<Partition> selected = new ArrayList<>(4);
+
+        if (host != null) {
+            if (contextPath != null) {
+                select(selected, host, contextPath);
+            }
+            select(selected, host, ANY);
+        }
+        if (contextPath != null) {
+            select(selected, ANY, contextPath);
+        }
+        select(selected, ANY, ANY);
+
+        return selected;
+    }
+
+    private void select(List<Partition> selected, String host, String contextPath) {
+        Map<String, Partition> byContextPath = partitions.get(host);
+        if (byContextPath != null) {
+            Partition partition = byContextPath.get(contextPath);
+            if (partition != null) {
+                selected.add(partition);
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if at least one resource declares a {@code host} selector
+     */
+    boolean hasHostSelectors() {
+        return hostSelectors;
+    }
+
+    List<String> getErrors() {
+        return errors;
+    }
+
+    boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    /**
+     * The resources declared for a single (host, context path) pair.
+     */
+    static final class Partition {
+
+        private final List<Resource> whitelist = new ArrayList<>();
+
+        private final List<Resource> blacklist = new ArrayList<>();
+
+        List<Resource> getWhitelist() {
+            return whitelist;
+        }
+
+        List<Resource> getBlacklist() {
+            return blacklist;
+        }
+    }
+}
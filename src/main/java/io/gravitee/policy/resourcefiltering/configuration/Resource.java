@@ -19,6 +19,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import io.gravitee.common.http.HttpMethod;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -32,6 +33,12 @@ public class Resource {
     @JsonProperty("methods")
     private List<HttpMethod> methods;
 
+    @JsonProperty("host")
+    private String host;
+
+    @JsonProperty("contextPath")
+    private String contextPath;
+
     public String getPattern() {
         return pattern;
     }
@@ -47,4 +54,36 @@ public class Resource {
     public void setMethods(List<HttpMethod> methods) {
         this.methods = methods;
     }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    public void setContextPath(String contextPath) {
+        this.contextPath = contextPath;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Resource resource = (Resource) o;
+        return Objects.equals(pattern, resource.pattern) &&
+                Objects.equals(methods, resource.methods) &&
+                Objects.equals(host, resource.host) &&
+                Objects.equals(contextPath, resource.contextPath);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pattern, methods, host, contextPath);
+    }
 }
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.gravitee.policy.api.PolicyConfiguration;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -34,6 +35,15 @@ public class ResourceFilteringPolicyConfiguration implements PolicyConfiguration
     @JsonProperty("blacklist")
     private List<Resource> blacklist;
 
+    @JsonProperty("maxPatternComplexity")
+    private int maxPatternComplexity = 0;
+
+    @JsonProperty("maxPathLength")
+    private int maxPathLength = 2048;
+
+    @JsonProperty("maxPathSegments")
+    private int maxPathSegments = 128;
+
     public List<Resource> getWhitelist() {
         return whitelist;
     }
@@ -49,4 +59,45 @@ public class ResourceFilteringPolicyConfiguration implements PolicyConfiguration
     public void setBlacklist(List<Resource> blacklist) {
         this.blacklist = blacklist;
     }
+
+    public int getMaxPatternComplexity() {
+        return maxPatternComplexity;
+    }
+
+    public void setMaxPatternComplexity(int maxPatternComplexity) {
+        this.maxPatternComplexity = maxPatternComplexity;
+    }
+
+    public int getMaxPathLength() {
+        return maxPathLength;
+    }
+
+    public void setMaxPathLength(int maxPathLength) {
+        this.maxPathLength = maxPathLength;
+    }
+
+    public int getMaxPathSegments() {
+        return maxPathSegments;
+    }
+
+    public void setMaxPathSegments(int maxPathSegments) {
+        this.maxPathSegments = maxPathSegments;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ResourceFilteringPolicyConfiguration that = (ResourceFilteringPolicyConfiguration) o;
+        return maxPatternComplexity == that.maxPatternComplexity &&
+                maxPathLength == that.maxPathLength &&
+                maxPathSegments == that.maxPathSegments &&
+                Objects.equals(whitelist, that.whitelist) &&
+                Objects.equals(blacklist, that.blacklist);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(whitelist, blacklist, maxPatternComplexity, maxPathLength, maxPathSegments);
+    }
 }
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.resourcefiltering;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class PatternComplexityTest {
+
+    @Test
+    public void test_normalize_collapseDeepWildcards() {
+        Assert.assertEquals("/products/**/prices", PatternComplexity.normalize("/products/**/**/**/prices"));
+        Assert.assertEquals("/**", PatternComplexity.normalize("/**/**"));
+    }
+
+    @Test
+    public void test_normalize_collapseWildcards() {
+        Assert.assertEquals("/products/a*b/**/", PatternComplexity.normalize("/products/a***b/**/"));
+    }
+
+    @Test
+    public void test_normalize_unchanged() {
+        Assert.assertEquals("/", PatternComplexity.normalize("/"));
+        Assert.assertEquals("/products/*/prices/", PatternComplexity.normalize("/products/*/prices/"));
+        Assert.assertNull(PatternComplexity.normalize(null));
+    }
+
+    @Test
+    public void test_cost() {
+        Assert.assertEquals(0, PatternComplexity.cost(null));
+        Assert.assertEquals(1, PatternComplexity.cost("/**"));
+        Assert.assertEquals(3, PatternComplexity.cost("/products/**/prices"));
+        Assert.assertEquals(6, PatternComplexity.cost("/products/{id}/prices/*"));
+        Assert.assertEquals(81, PatternComplexity.cost("/**/a*/**/b*/**/c*"));
+    }
+
+    @Test
+    public void test_cost_wildcardsInSegment() {
+        Assert.assertEquals(2, PatternComplexity.cost("/a*"));
+        Assert.assertEquals(4, PatternComplexity.cost("/*a*"));
+        Assert.assertEquals(3, PatternComplexity.cost("/a?c?"));
+        Assert.assertEquals(128, PatternComplexity.cost("/*a*a*a*a*a*a*b"));
+        Assert.assertEquals(Long.MAX_VALUE, PatternComplexity.cost("/" + new String(new char[100]).replace('\0', '*') + "a"));
+    }
+
+    @Test
+    public void test_cost_templateVariableWithRegex() {
+        Assert.assertEquals(Long.MAX_VALUE, PatternComplexity.cost("/products/{x:(a+)+b}"));
+        Assert.assertEquals(Long.MAX_VALUE, PatternComplexity.cost("/products/{id:[0-9]{2,3}}/prices"));
+    }
+}
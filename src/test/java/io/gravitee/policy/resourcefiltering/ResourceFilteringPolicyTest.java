@@ -15,7 +15,9 @@
  */
 package io.gravitee.policy.resourcefiltering;
 
+import io.gravitee.common.http.HttpHeaders;
 import io.gravitee.common.http.HttpMethod;
+import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.gateway.api.Request;
 import io.gravitee.gateway.api.Response;
 import io.gravitee.policy.api.PolicyChain;
@@ -33,6 +35,7 @@ import java.util.Arrays;
 import java.util.Collections;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -413,4 +416,171 @@ public class ResourceFilteringPolicyTest {
 
         verify(policyChain).doNext(request, response);
     }
+
+    @Test
+    public void testOnRequest_patternTooComplex() {
+        Resource resource = new Resource();
+        resource.setPattern("/**/a*/**/b*/**/c*");
+
+        when(resourceFilteringPolicyConfiguration.getWhitelist()).thenReturn(
+                Collections.singletonList(resource));
+        when(resourceFilteringPolicyConfiguration.getMaxPatternComplexity()).thenReturn(64);
+
+        resourceFilteringPolicy.onRequest(request, response, policyChain);
+
+        verify(policyChain).failWith(argThat(result -> result.httpStatusCode() == HttpStatusCode.INTERNAL_SERVER_ERROR_500));
+    }
+
+    @Test
+    public void testOnRequest_patternRewrittenWithinBudget() {
+        Resource resource = new Resource();
+        resource.setPattern("/**/**/**/prices");
+
+        when(resourceFilteringPolicyConfiguration.getWhitelist()).thenReturn(
+                Collections.singletonList(resource));
+        when(resourceFilteringPolicyConfiguration.getMaxPatternComplexity()).thenReturn(2);
+        when(request.path()).thenReturn("/products/123456/prices");
+        when(request.contextPath()).thenReturn("/products/");
+
+        resourceFilteringPolicy.onRequest(request, response, policyChain);
+
+        verify(policyChain).doNext(request, response);
+    }
+
+    @Test
+    public void testOnRequest_pathTooLong() {
+        when(resourceFilteringPolicyConfiguration.getMaxPathLength()).thenReturn(10);
+        when(request.path()).thenReturn("/products/123456");
+
+        resourceFilteringPolicy.onRequest(request, response, policyChain);
+
+        verify(policyChain).failWith(argThat(result -> result.httpStatusCode() == HttpStatusCode.BAD_REQUEST_400));
+    }
+
+    @Test
+    public void testOnRequest_pathTooManySegments() {
+        when(resourceFilteringPolicyConfiguration.getMaxPathSegments()).thenReturn(2);
+        when(request.path()).thenReturn("/products/123456/prices");
+
+        resourceFilteringPolicy.onRequest(request, response, policyChain);
+
+        verify(policyChain).failWith(argThat(result -> result.httpStatusCode() == HttpStatusCode.BAD_REQUEST_400));
+    }
+
+    @Test
+    public void testOnRequest_hostPartition_otherHost() {
+        Resource resource = new Resource();
+        resource.setPattern("/**");
+        resource.setHost("tenant-a.example.com");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.HOST, "tenant-b.example.com");
+
+        when(resourceFilteringPolicyConfiguration.getBlacklist()).thenReturn(
+                Collections.singletonList(resource));
+        when(request.headers()).thenReturn(headers);
+        when(request.path()).thenReturn("/products/123456");
+        when(request.contextPath()).thenReturn("/products/");
+
+        resourceFilteringPolicy.onRequest(request, response, policyChain);
+
+        verify(policyChain).doNext(request, response);
+    }
+
+    @Test
+    public void testOnRequest_hostPartition_sameHostWithPort() {
+        Resource resource = new Resource();
+        resource.setPattern("/**");
+        resource.setHost("tenant-a.example.com");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.HOST, "Tenant-A.example.com:8082");
+
+        when(resourceFilteringPolicyConfiguration.getBlacklist()).thenReturn(
+                Collections.singletonList(resource));
+        when(request.headers()).thenReturn(headers);
+        when(request.path()).thenReturn("/products/123456");
+        when(request.contextPath()).thenReturn("/products/");
+
+        resourceFilteringPolicy.onRequest(request, response, policyChain);
+
+        verify(policyChain).failWith(any(PolicyResult.class));
+    }
+
+    @Test
+    public void testOnRequest_contextPathPartition() {
+        Resource products = new Resource();
+        products.setPattern("/*");
+        products.setContextPath("/products");
+        Resource stores = new Resource();
+        stores.setPattern("/**");
+        stores.setContextPath("/stores");
+
+        when(resourceFilteringPolicyConfiguration.getWhitelist()).thenReturn(
+                Arrays.asList(products, stores));
+        when(request.path()).thenReturn("/products/123456/prices");
+        when(request.contextPath()).thenReturn("/products/");
+
+        resourceFilteringPolicy.onRequest(request, response, policyChain);
+
+        verify(policyChain).failWith(any(PolicyResult.class));
+    }
+
+    @Test
+    public void testOnRequest_contextPathPartition_withSharedResource() {
+        Resource stores = new Resource();
+        stores.setPattern("/**");
+        stores.setContextPath("/stores");
+        Resource shared = new Resource();
+        shared.setPattern("/**/prices");
+
+        when(resourceFilteringPolicyConfiguration.getBlacklist()).thenReturn(
+                Arrays.asList(stores, shared));
+        when(request.path()).thenReturn("/products/123456/prices");
+        when(request.contextPath()).thenReturn("/products/");
+
+        resourceFilteringPolicy.onRequest(request, response, policyChain);
+
+        verify(policyChain).failWith(any(PolicyResult.class));
+    }
+
+    @Test
+    public void testOnRequest_hostPartition_trailingDot() {
+        Resource resource = new Resource();
+        resource.setPattern("/**");
+        resource.setHost("admin.example.com");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.HOST, "admin.example.com.");
+
+        when(resourceFilteringPolicyConfiguration.getBlacklist()).thenReturn(
+                Collections.singletonList(resource));
+        when(request.headers()).thenReturn(headers);
+        when(request.path()).thenReturn("/products/123456");
+        when(request.contextPath()).thenReturn("/products/");
+
+        resourceFilteringPolicy.onRequest(request, response, policyChain);
+
+        verify(policyChain).failWith(any(PolicyResult.class));
+    }
+
+    @Test
+    public void testOnRequest_hostPartition_whitelistOtherHost() {
+        Resource resource = new Resource();
+        resource.setPattern("/**");
+        resource.setHost("tenant-a.example.com");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.HOST, "tenant-b.example.com");
+
+        when(resourceFilteringPolicyConfiguration.getWhitelist()).thenReturn(
+                Collections.singletonList(resource));
+        when(request.headers()).thenReturn(headers);
+        when(request.path()).thenReturn("/products/123456");
+        when(request.contextPath()).thenReturn("/products/");
+
+        resourceFilteringPolicy.onRequest(request, response, policyChain);
+
+        verify(policyChain).doNext(request, response);
+    }
 }
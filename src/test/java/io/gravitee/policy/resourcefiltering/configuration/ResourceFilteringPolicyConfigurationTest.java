@@ -63,6 +63,40 @@ public class ResourceFilteringPolicyConfigurationTest {
         Assert.assertNull(resource.getMethods());
     }
 
+    @Test
+    public void test_resourceFiltering05() throws IOException {
+        ResourceFilteringPolicyConfiguration configuration =
+                load("/io/gravitee/policy/resourcefiltering/configuration/resourcefiltering05.json", ResourceFilteringPolicyConfiguration.class);
+
+        Resource resource = configuration.getWhitelist().iterator().next();
+        Assert.assertEquals("api.example.com", resource.getHost());
+        Assert.assertEquals("/products", resource.getContextPath());
+    }
+
+    @Test
+    public void test_resourceFiltering_equality() throws IOException {
+        ResourceFilteringPolicyConfiguration configuration1 =
+                load("/io/gravitee/policy/resourcefiltering/configuration/resourcefiltering05.json", ResourceFilteringPolicyConfiguration.class);
+        ResourceFilteringPolicyConfiguration configuration2 =
+                load("/io/gravitee/policy/resourcefiltering/configuration/resourcefiltering05.json", ResourceFilteringPolicyConfiguration.class);
+
+        Assert.assertEquals(configuration1, configuration2);
+        Assert.assertEquals(configuration1.hashCode(), configuration2.hashCode());
+
+        configuration2.getWhitelist().iterator().next().setHost("other.example.com");
+        Assert.assertNotEquals(configuration1, configuration2);
+    }
+
+    @Test
+    public void test_resourceFiltering_defaultLimits() throws IOException {
+        ResourceFilteringPolicyConfiguration configuration =
+                load("/io/gravitee/policy/resourcefiltering/configuration/resourcefiltering03.json", ResourceFilteringPolicyConfiguration.class);
+
+        Assert.assertEquals(0, configuration.getMaxPatternComplexity());
+        Assert.assertEquals(2048, configuration.getMaxPathLength());
+        Assert.assertEquals(128, configuration.getMaxPathSegments());
+    }
+
     private <T> T load(String resource, Class<T> type) throws IOException {
         URL jsonFile = this.getClass().getResource(resource);
         return new ObjectMapper().readValue(jsonFile, type);